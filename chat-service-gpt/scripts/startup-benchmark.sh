@@ -0,0 +1,62 @@
+#!/usr/bin/env bash
+# 기동 벤치마크: 프로세스 시작부터 첫 WebSocket 연결 수락(101 Switching Protocols)까지의 시간과 그 시점의 RSS 측정
+# DB/Redis가 떠 있어야 함 (docker-compose up)
+#
+# 사용법:
+#   ./gradlew bootJar   && ./scripts/startup-benchmark.sh default
+#   ./gradlew cdsArchive && ./scripts/startup-benchmark.sh fast-start
+set -euo pipefail
+
+MODE=${1:-default}
+PORT=${PORT:-8080}
+PROJECT_DIR=$(cd "$(dirname "$0")/.." && pwd)
+LOG="$PROJECT_DIR/build/startup-benchmark-$MODE.log"
+
+case "$MODE" in
+  default)
+    JAR=$(ls "$PROJECT_DIR"/build/libs/*.jar | grep -v -- '-plain.jar' | head -1)
+    CMD=(java -jar "$JAR")
+    ;;
+  fast-start)
+    cd "$PROJECT_DIR/build/cds"
+    JAR=$(ls *.jar | head -1)
+    CMD=(java -XX:SharedArchiveFile=application.jsa -Dspring.aot.enabled=true
+         -Dspring.profiles.active=fast-start -jar "$JAR")
+    ;;
+  *)
+    echo "unknown mode: $MODE (default | fast-start)" >&2
+    exit 1
+    ;;
+esac
+
+# SockJS raw WebSocket 엔드포인트로 핸드셰이크 요청, 101 응답이면 성공
+# 기동 중 연결 실패 메시지가 쌓이지 않도록 서브셸에서 소켓을 열고 stderr를 버림 (fd 3은 서브셸 종료 시 닫힘)
+ws_handshake() {
+  (
+    exec 3<>"/dev/tcp/localhost/$PORT" || exit 1
+    printf 'GET /ws-chat/websocket HTTP/1.1\r\nHost: localhost:%s\r\nUpgrade: websocket\r\nConnection: Upgrade\r\nSec-WebSocket-Key: dGhlIHNhbXBsZSBub25jZQ==\r\nSec-WebSocket-Version: 13\r\n\r\n' "$PORT" >&3
+    status=""
+    read -r -t 2 status <&3 || true
+    [[ "$status" == *" 101 "* ]]
+  ) 2>/dev/null
+}
+
+START=$(date +%s%N)
+"${CMD[@]}" --server.port="$PORT" > "$LOG" 2>&1 &
+PID=$!
+trap 'kill $PID 2>/dev/null || true; wait $PID 2>/dev/null || true' EXIT
+
+until ws_handshake; do
+  if ! kill -0 "$PID" 2>/dev/null; then
+    echo "application exited before accepting a connection, see $LOG" >&2
+    exit 1
+  fi
+  sleep 0.05
+done
+
+END=$(date +%s%N)
+RSS_KB=$(awk '/^VmRSS:/ { print $2 }' "/proc/$PID/status")
+
+echo "mode=$MODE"
+echo "time_to_first_ws_connection_ms=$(( (END - START) / 1000000 ))"
+echo "rss_mb=$(( RSS_KB / 1024 ))"
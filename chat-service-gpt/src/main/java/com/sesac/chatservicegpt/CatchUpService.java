@@ -0,0 +1,49 @@
+package com.sesac.chatservicegpt;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@RequiredArgsConstructor
+public class CatchUpService {
+
+    private final ChatMessageRepository chatMessageRepository;
+
+    @Value("${chat.catch-up.page-size}")
+    private int pageSize;
+
+    // 사용자가 참여 중인 모든 채팅방의 미확인 메시지 요약 (단일 쿼리)
+    @Transactional(readOnly = true)
+    public List<RoomCatchUpDto> getDigest(Long userId) {
+        Map<String, RoomCatchUpDto> rooms = new LinkedHashMap<>();
+
+        for (var row : chatMessageRepository.findMissedMessages(userId, pageSize)) {
+            RoomCatchUpDto room = rooms.computeIfAbsent(row.getRoomId(), roomId -> new RoomCatchUpDto(
+                    Long.parseLong(roomId), row.getMissedCount(), null, new ArrayList<>()));
+
+            ChatMessage message = ChatMessage.builder()
+                    .id(row.getId())
+                    .roomId(row.getRoomId())
+                    .sender(row.getSender())
+                    .message(row.getMessage())
+                    .timestamp(row.getTimestamp())
+                    .build();
+
+            if (row.getRowNumber() <= pageSize) {
+                room.getMessages().add(message);
+            }
+            if (row.getRowNumber().equals(row.getMissedCount())) {
+                room.setLastMessage(message);
+            }
+        }
+
+        return new ArrayList<>(rooms.values());
+    }
+}
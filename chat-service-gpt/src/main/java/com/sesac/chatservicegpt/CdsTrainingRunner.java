@@ -0,0 +1,82 @@
+package com.sesac.chatservicegpt;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.WebSocket;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+
+// CDS 아카이브 학습 실행 (chat.cds-training=true 일 때만 동작, cdsArchive 태스크에서 사용)
+// 운영과 같은 설정(AOT + fast-start)으로 기동한 뒤 실제 첫 요청 경로를 한 번 거치고 종료해야
+// 지연 초기화되는 빈과 백그라운드 Hibernate 부트스트랩 클래스까지 아카이브에 포함됨
+// 조건부 빈 대신 실행 시점에 플래그 확인 (AOT 모드에서는 빈 등록 조건이 빌드 시점에 고정되므로)
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CdsTrainingRunner {
+
+    private static final long TIMEOUT_SECONDS = 30;
+
+    private final ChatRoomService chatRoomService;
+
+    @Value("${chat.cds-training:false}")
+    private boolean enabled;
+
+    @EventListener
+    public void onApplicationReady(ApplicationReadyEvent event) {
+        if (!enabled) {
+            return;
+        }
+
+        ConfigurableApplicationContext context = event.getApplicationContext();
+        int exitCode = 0;
+        try {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            connectStomp(port);
+            // 리포지토리 호출 (deferred 부트스트랩 완료 대기 + JPA/Redis 조회 경로)
+            chatRoomService.getAllActiveRooms();
+            log.info("CDS 학습 실행 완료");
+        } catch (Exception e) {
+            log.error("CDS 학습 실행 실패", e);
+            exitCode = 1;
+        }
+
+        int finalExitCode = exitCode;
+        System.exit(SpringApplication.exit(context, () -> finalExitCode));
+    }
+
+    // SockJS raw WebSocket 엔드포인트로 접속해 STOMP CONNECT → CONNECTED 까지 수행
+    private void connectStomp(int port) throws Exception {
+        CompletableFuture<String> connected = new CompletableFuture<>();
+
+        WebSocket webSocket = HttpClient.newHttpClient().newWebSocketBuilder()
+                .buildAsync(URI.create("ws://localhost:" + port + "/ws-chat/websocket"), new WebSocket.Listener() {
+                    @Override
+                    public CompletionStage<?> onText(WebSocket socket, CharSequence data, boolean last) {
+                        connected.complete(data.toString());
+                        return null;
+                    }
+                })
+                .get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+        webSocket.sendText("CONNECT\naccept-version:1.2\nhost:localhost\n\n\0", true)
+                .get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        String frame = connected.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        if (!frame.startsWith("CONNECTED")) {
+            throw new IllegalStateException("STOMP 연결 실패: " + frame);
+        }
+
+        webSocket.sendClose(WebSocket.NORMAL_CLOSURE, "").get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+}
@@ -1,29 +1,56 @@
 package com.sesac.chatservicegpt;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
 import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
 import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.annotation.SubscribeMapping;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
 import org.springframework.stereotype.Controller;
+import org.springframework.web.socket.messaging.SessionConnectEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
 
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Controller
 @RequiredArgsConstructor
 public class ChatController {
 
+    // WebSocket 세션 속성: 연결 끊김 시 입장 중이던 채팅방을 퇴장 처리하기 위해 기록
+    private static final String SESSION_USER_ID = "userId";
+    private static final String SESSION_NICKNAME = "nickname";
+    private static final String SESSION_ROOM_IDS = "roomIds";
+
     private final SimpMessageSendingOperations messagingTemplate;
     private final ChatMessageRepository chatMessageRepository;
     private final ChatRoomService chatRoomService;
+    private final CatchUpService catchUpService;
+    private final RoomSessionRegistry roomSessionRegistry;
 
     // 기존 채팅 메시지 전송
     @MessageMapping("/chat.sendMessage")
-    public void sendMessage(Map<String, Object> payload) {
+    public void sendMessage(Map<String, Object> payload, SimpMessageHeaderAccessor headerAccessor) {
         String roomId = payload.get("roomId").toString();
         String sender = payload.get("sender").toString();
         String message = payload.get("message").toString();
 
+        // 채팅방 목록으로 관리되는 채팅방(숫자 ID)만 종료 여부 확인 / 활동 기록
+        // chat.html 테스트 페이지의 "room1" 같은 임의 ID는 기존처럼 저장/전송만 수행
+        Long managedRoomId = parseId(roomId);
+
+        // 종료된 채팅방에는 메시지 저장/전송 불가
+        if (managedRoomId != null && !chatRoomService.isRoomActive(managedRoomId)) {
+            sendError(headerAccessor, "종료된 채팅방입니다.");
+            return;
+        }
+
         // DB 저장
         ChatMessage saved = chatMessageRepository.save(ChatMessage.builder()
                 .roomId(roomId)
@@ -32,6 +59,11 @@ public class ChatController {
                 .timestamp(LocalDateTime.now())
                 .build());
 
+        // 채팅방 활동 시각 갱신 (장기 미사용 자동 종료 기준)
+        if (managedRoomId != null) {
+            chatRoomService.recordActivity(managedRoomId);
+        }
+
         // 구독자에게 브로드캐스트
         messagingTemplate.convertAndSend("/topic/rooms/" + roomId + "/messages", saved);
 
@@ -46,24 +78,42 @@ public class ChatController {
 
     // 채팅방 입장
     @MessageMapping("/chat.join")
-    public void joinRoom(Map<String, Object> payload) {
+    public void joinRoom(Map<String, Object> payload, SimpMessageHeaderAccessor headerAccessor) {
         Long roomId = Long.parseLong(payload.get("roomId").toString());
         String sender = payload.get("sender").toString();
         Long userId = Long.parseLong(payload.get("userId").toString());
 
+        // 세션에 기록된 사용자와 다른 userId로는 입장 불가 (다른 사용자의 미확인 메시지 요약 조회 방지)
+        if (!bindSessionUser(headerAccessor, userId)) {
+            sendError(headerAccessor, "접속한 사용자와 일치하지 않습니다.");
+            return;
+        }
+
+        // 종료된 채팅방 입장 불가
+        if (!chatRoomService.isRoomActive(roomId)) {
+            sendError(headerAccessor, "종료된 채팅방입니다.");
+            return;
+        }
+
         // 재입장 가능 여부 확인
         if (!chatRoomService.canRejoin(roomId, userId)) {
-            messagingTemplate.convertAndSendToUser(
-                    userId.toString(),
-                    "/queue/errors",
-                    Map.of("message", "이 채팅방에 입장할 수 없습니다.")
-            );
+            sendError(headerAccessor, "이 채팅방에 입장할 수 없습니다.");
             return;
         }
 
+        // 자리 비운 동안의 미확인 메시지 요약을 이 세션에만 전송
+        // (입장/읽음 처리 전에 계산해야 이 채팅방도 포함됨, 다른 탭에서 이미 입장한 경우도 전송)
+        List<RoomCatchUpDto> catchUp = catchUpService.getDigest(userId);
+        if (!catchUp.isEmpty()) {
+            sendToSession(headerAccessor.getSessionId(), "/queue/catch-up", catchUpDigest(userId, catchUp));
+        }
+
         // 이미 입장해 있는지 확인 (중복 입장 방지)
         if (chatRoomService.isAlreadyInRoom(roomId, userId)) {
             System.out.println("이미 입장한 사용자: " + userId + " in room: " + roomId);
+            // 입장 상태로 남아 있던 동안의 메시지는 확인한 것으로 처리
+            chatRoomService.markAsRead(roomId, userId);
+            rememberJoinedRoom(headerAccessor, roomId, userId, sender);
             return; // 시스템 메시지 전송하지 않음
         }
 
@@ -78,44 +128,73 @@ public class ChatController {
                         Map.of("message", systemMessage, "type", "JOIN"));
             }
         } catch (RuntimeException e) {
-            messagingTemplate.convertAndSendToUser(
-                    userId.toString(),
-                    "/queue/errors",
-                    Map.of("message", e.getMessage())
-            );
+            sendError(headerAccessor, e.getMessage());
             return;
         }
 
+        // 연결 끊김 시 퇴장 처리를 위해 세션에 입장 채팅방 기록
+        rememberJoinedRoom(headerAccessor, roomId, userId, sender);
+
         // 참여자 목록 업데이트 브로드캐스트
         broadcastParticipants(roomId);
     }
 
     // 채팅방 퇴장 (일시 퇴장)
     @MessageMapping("/chat.leave")
-    public void leaveRoom(Map<String, Object> payload) {
+    public void leaveRoom(Map<String, Object> payload, SimpMessageHeaderAccessor headerAccessor) {
         Long roomId = Long.parseLong(payload.get("roomId").toString());
         String sender = payload.get("sender").toString();
         Long userId = Long.parseLong(payload.get("userId").toString());
 
-        // Redis에서 참여자 제거 (일시 퇴장)
-        chatRoomService.temporaryLeave(roomId, userId);
+        // 다른 탭(세션)에서 아직 입장 중이면 퇴장 처리하지 않음
+        if (forgetJoinedRoom(headerAccessor, roomId, userId)) {
+            leave(roomId, userId, sender);
+        }
+    }
 
-        // 시스템 메시지 전송
-        String systemMessage = sender + "님이 퇴장하셨습니다.";
-        messagingTemplate.convertAndSend("/topic/rooms/" + roomId + "/system",
-                Map.of("message", systemMessage, "type", "LEAVE"));
+    // STOMP CONNECT 헤더의 userId를 세션에 기록 (이후 입장/미확인 메시지 요약은 이 사용자 기준)
+    @EventListener
+    public void handleConnect(SessionConnectEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        Map<String, Object> attributes = accessor.getSessionAttributes();
+        Long userId = parseId(accessor.getFirstNativeHeader(SESSION_USER_ID));
+        if (attributes != null && userId != null) {
+            attributes.put(SESSION_USER_ID, userId);
+        }
+    }
 
-        // 참여자 목록 업데이트 브로드캐스트
-        broadcastParticipants(roomId);
+    // 연결 끊김 (chat.leave 없이 탭 종료/네트워크 단절) 시 입장 중이던 채팅방에서 일시 퇴장 처리
+    // 미확인 메시지 오프셋이 끊긴 시점으로 이동하므로, 재접속 시 이미 본 메시지가 미확인으로 집계되지 않음
+    @EventListener
+    public void handleDisconnect(SessionDisconnectEvent event) {
+        Map<String, Object> attributes = SimpMessageHeaderAccessor.getSessionAttributes(event.getMessage().getHeaders());
+        if (attributes == null || !(attributes.get(SESSION_USER_ID) instanceof Long userId)) {
+            return;
+        }
+        Object nickname = attributes.get(SESSION_NICKNAME);
+        if (nickname == null) {
+            return; // 입장한 채팅방 없음
+        }
+
+        for (Long roomId : joinedRooms(attributes)) {
+            // 다른 탭(세션)에서 아직 입장 중이거나 이미 퇴장/퇴출 처리된 경우 제외 (disconnect 이벤트는 중복 발생할 수 있음)
+            boolean lastSession = roomSessionRegistry.unregister(roomId, userId, event.getSessionId());
+            if (lastSession && chatRoomService.isAlreadyInRoom(roomId, userId)) {
+                leave(roomId, userId, nickname.toString());
+            }
+        }
+        joinedRooms(attributes).clear();
     }
 
     // 채팅방 영구 탈퇴 (자발적)
     @MessageMapping("/chat.exit")
-    public void exitRoom(Map<String, Object> payload) {
+    public void exitRoom(Map<String, Object> payload, SimpMessageHeaderAccessor headerAccessor) {
         Long roomId = Long.parseLong(payload.get("roomId").toString());
         String sender = payload.get("sender").toString();
         Long userId = Long.parseLong(payload.get("userId").toString());
 
+        forgetJoinedRoom(headerAccessor, roomId, userId);
+
         // 영구 탈퇴 처리
         chatRoomService.permanentExit(roomId, userId, sender);
 
@@ -130,7 +209,7 @@ public class ChatController {
 
     // 강제 퇴출 (방장 전용)
     @MessageMapping("/chat.kick")
-    public void kickParticipant(Map<String, Object> payload) {
+    public void kickParticipant(Map<String, Object> payload, SimpMessageHeaderAccessor headerAccessor) {
         Long roomId = Long.parseLong(payload.get("roomId").toString());
         Long targetUserId = Long.parseLong(payload.get("targetUserId").toString());
         String targetNickname = payload.get("targetNickname").toString();
@@ -139,11 +218,7 @@ public class ChatController {
 
         // 방장 권한 확인
         if (!chatRoomService.isRoomCreator(roomId, kickedBy)) {
-            messagingTemplate.convertAndSendToUser(
-                    kickedBy.toString(),
-                    "/queue/errors",
-                    Map.of("message", "방장만 퇴출할 수 있습니다.")
-            );
+            sendError(headerAccessor, "방장만 퇴출할 수 있습니다.");
             return;
         }
 
@@ -172,13 +247,29 @@ public class ChatController {
 
     // 채팅방 생성
     @MessageMapping("/rooms.create")
-    public void createRoom(Map<String, Object> payload) {
+    public void createRoom(Map<String, Object> payload, SimpMessageHeaderAccessor headerAccessor) {
         String roomName = payload.get("roomName").toString();
         String createdBy = payload.get("createdBy").toString();
         Long userId = Long.parseLong(payload.get("userId").toString());
 
+        // 모집 마감 시각 (선택, ISO-8601 형식, 현재 이후여야 함)
+        LocalDateTime closesAt = null;
+        Object closesAtValue = payload.get("closesAt");
+        if (closesAtValue != null) {
+            try {
+                closesAt = LocalDateTime.parse(closesAtValue.toString());
+            } catch (DateTimeParseException e) {
+                sendError(headerAccessor, "마감 시각 형식이 올바르지 않습니다. (예: 2025-10-01T18:00:00)");
+                return;
+            }
+            if (!closesAt.isAfter(LocalDateTime.now())) {
+                sendError(headerAccessor, "마감 시각은 현재 이후여야 합니다.");
+                return;
+            }
+        }
+
         // 채팅방 생성
-        ChatRoom newRoom = chatRoomService.createRoom(roomName, createdBy, userId);
+        ChatRoom newRoom = chatRoomService.createRoom(roomName, createdBy, userId, closesAt);
 
         // 모든 사용자에게 채팅방 목록 업데이트 브로드캐스트
         broadcastRoomList();
@@ -201,6 +292,98 @@ public class ChatController {
         // 여기서는 참여 의사만 표시
     }
 
+    // 접속 직후 /app/catch-up 구독 시 세션 사용자의 미확인 메시지 요약을 해당 세션에 바로 응답
+    @SubscribeMapping("/catch-up")
+    public Map<String, Object> subscribeCatchUp(SimpMessageHeaderAccessor headerAccessor) {
+        Map<String, Object> attributes = headerAccessor.getSessionAttributes();
+        if (attributes == null || !(attributes.get(SESSION_USER_ID) instanceof Long userId)) {
+            return Map.of("totalMissed", 0L, "rooms", List.of()); // CONNECT 헤더에 userId 없음
+        }
+        return catchUpDigest(userId, catchUpService.getDigest(userId));
+    }
+
+    private Map<String, Object> catchUpDigest(Long userId, List<RoomCatchUpDto> rooms) {
+        long totalMissed = rooms.stream().mapToLong(RoomCatchUpDto::getMissedCount).sum();
+        return Map.of(
+                "userId", userId,
+                "totalMissed", totalMissed,
+                "rooms", rooms
+        );
+    }
+
+    // 없거나 숫자가 아닌 ID는 null
+    private Long parseId(String id) {
+        if (id == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(id);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    // 세션 사용자가 없으면 기록, 있으면 일치 여부 반환
+    private boolean bindSessionUser(SimpMessageHeaderAccessor headerAccessor, Long userId) {
+        Map<String, Object> attributes = headerAccessor.getSessionAttributes();
+        if (attributes == null) {
+            return true;
+        }
+        Object sessionUserId = attributes.putIfAbsent(SESSION_USER_ID, userId);
+        return sessionUserId == null || sessionUserId.equals(userId);
+    }
+
+    // 요청한 세션에만 오류 전송 (클라이언트는 /user/queue/errors 구독)
+    // 세션에 인증 사용자(Principal)가 없으므로 세션 ID를 사용자 대상으로 사용
+    private void sendError(SimpMessageHeaderAccessor headerAccessor, String message) {
+        sendToSession(headerAccessor.getSessionId(), "/queue/errors", Map.of("message", message));
+    }
+
+    private void sendToSession(String sessionId, String destination, Object payload) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId(sessionId);
+        accessor.setLeaveMutable(true);
+        messagingTemplate.convertAndSendToUser(sessionId, destination, payload, accessor.getMessageHeaders());
+    }
+
+    private void leave(Long roomId, Long userId, String sender) {
+        // Redis에서 참여자 제거 (일시 퇴장)
+        chatRoomService.temporaryLeave(roomId, userId);
+
+        // 시스템 메시지 전송
+        String systemMessage = sender + "님이 퇴장하셨습니다.";
+        messagingTemplate.convertAndSend("/topic/rooms/" + roomId + "/system",
+                Map.of("message", systemMessage, "type", "LEAVE"));
+
+        // 참여자 목록 업데이트 브로드캐스트
+        broadcastParticipants(roomId);
+    }
+
+    private void rememberJoinedRoom(SimpMessageHeaderAccessor headerAccessor, Long roomId, Long userId, String nickname) {
+        Map<String, Object> attributes = headerAccessor.getSessionAttributes();
+        if (attributes == null) {
+            return;
+        }
+        attributes.put(SESSION_USER_ID, userId);
+        attributes.put(SESSION_NICKNAME, nickname);
+        joinedRooms(attributes).add(roomId);
+        roomSessionRegistry.register(roomId, userId, headerAccessor.getSessionId());
+    }
+
+    // 세션의 입장 기록 제거, 해당 사용자가 이 채팅방에 남은 세션이 없으면 true
+    private boolean forgetJoinedRoom(SimpMessageHeaderAccessor headerAccessor, Long roomId, Long userId) {
+        Map<String, Object> attributes = headerAccessor.getSessionAttributes();
+        if (attributes != null) {
+            joinedRooms(attributes).remove(roomId);
+        }
+        return roomSessionRegistry.unregister(roomId, userId, headerAccessor.getSessionId());
+    }
+
+    @SuppressWarnings("unchecked")
+    private Set<Long> joinedRooms(Map<String, Object> attributes) {
+        return (Set<Long>) attributes.computeIfAbsent(SESSION_ROOM_IDS, key -> ConcurrentHashMap.newKeySet());
+    }
+
     private void broadcastRoomList() {
         List<ChatRoom> rooms = chatRoomService.getAllActiveRooms();
         messagingTemplate.convertAndSend("/topic/rooms", rooms);
@@ -4,11 +4,14 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
 import lombok.*;
 
 import java.time.LocalDateTime;
 
 @Entity
+@Table(indexes = @Index(name = "idx_chat_message_room_id_id", columnList = "roomId, id"))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -2,8 +2,11 @@ package com.sesac.chatservicegpt;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -14,4 +17,41 @@ public interface ChatMessageRepository extends JpaRepository<ChatMessage, Long>
 
     // 특정 채팅방의 모든 메시지 개수
     long countByRoomId(String roomId);
+
+    // 특정 채팅방의 마지막 메시지 ID (없으면 0)
+    @Query("SELECT COALESCE(MAX(m.id), 0) FROM ChatMessage m WHERE m.roomId = :roomId")
+    Long findLastMessageId(@Param("roomId") String roomId);
+
+    // 사용자가 참여 중인(ACTIVE/TEMP_LEFT) 모든 채팅방의 미확인 메시지를 한 번에 조회
+    // 채팅방별 lastReadMessageId 이후 메시지 중 앞쪽 pageSize개 + 마지막 메시지만 반환
+    // lastReadMessageId가 없는(오프셋 도입 이전) 참여 기록은 미확인 메시지 없음으로 처리
+    @Query(value = """
+            SELECT x.id AS "id", x.room_id AS "roomId", x.sender AS "sender", x.message AS "message",
+                   x.timestamp AS "timestamp", x.missed_count AS "missedCount", x.rn AS "rowNumber"
+            FROM (
+                SELECT m.id, m.room_id, m.sender, m.message, m.timestamp,
+                       COUNT(*) OVER (PARTITION BY m.room_id) AS missed_count,
+                       ROW_NUMBER() OVER (PARTITION BY m.room_id ORDER BY m.id) AS rn
+                FROM room_participant p
+                JOIN chat_message m
+                  ON m.room_id = CAST(p.room_id AS VARCHAR)
+                 AND m.id > p.last_read_message_id
+                WHERE p.user_id = :userId
+                  AND p.last_read_message_id IS NOT NULL
+                  AND p.status IN ('ACTIVE', 'TEMP_LEFT')
+            ) x
+            WHERE x.rn <= :pageSize OR x.rn = x.missed_count
+            ORDER BY x.room_id, x.id
+            """, nativeQuery = true)
+    List<MissedMessage> findMissedMessages(@Param("userId") Long userId, @Param("pageSize") int pageSize);
+
+    interface MissedMessage {
+        Long getId();
+        String getRoomId();
+        String getSender();
+        String getMessage();
+        LocalDateTime getTimestamp();
+        Long getMissedCount();
+        Long getRowNumber();
+    }
 }
@@ -2,6 +2,8 @@ package com.sesac.chatservicegpt;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
 
@@ -11,9 +13,12 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class ChatRoom {
+    // IDENTITY는 JDBC insert 배칭을 막으므로 pooled 시퀀스 사용 (50개 단위로 id 선할당)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "chat_room_seq")
+    @SequenceGenerator(name = "chat_room_seq", sequenceName = "chat_room_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -35,6 +40,10 @@ public class ChatRoom {
     @Column
     private Integer maxParticipants;
 
+    // 모집 마감 시각 (지나면 스케줄러가 자동 종료, null이면 마감 없음)
+    @Column
+    private LocalDateTime closesAt;
+
     // 현재 참여자 수는 실시간으로 계산하거나 Redis에서 관리
     @Transient
     private Integer participantCount;
@@ -1,10 +1,18 @@
 package com.sesac.chatservicegpt;
 
+import org.springframework.data.domain.Pageable;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ChatRoomRepository extends JpaRepository<ChatRoom, Long> {
@@ -18,4 +26,22 @@ public interface ChatRoomRepository extends JpaRepository<ChatRoom, Long> {
 
     // 특정 사용자가 생성한 채팅방 조회
     List<ChatRoom> findByCreatedByUserIdAndActiveTrue(Long userId);
+
+    // 채팅방 행 잠금 조회 (입장 처리와 채팅방 종료의 동시 실행 방지)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM ChatRoom r WHERE r.id = :roomId")
+    Optional<ChatRoom> findByIdForUpdate(@Param("roomId") Long roomId);
+
+    // 모집 마감 시각이 지난 활성 채팅방 ID 조회
+    @Query("SELECT r.id FROM ChatRoom r WHERE r.active = true AND r.closesAt <= :now ORDER BY r.closesAt")
+    List<Long> findExpiredRoomIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    // 주어진 채팅방 중 아직 활성 상태인 채팅방 ID 조회
+    @Query("SELECT r.id FROM ChatRoom r WHERE r.active = true AND r.id IN :roomIds")
+    List<Long> findActiveRoomIds(@Param("roomIds") Collection<Long> roomIds);
+
+    // 채팅방 일괄 종료
+    @Modifying
+    @Query("UPDATE ChatRoom r SET r.active = false WHERE r.id IN :roomIds")
+    int deactivateAll(@Param("roomIds") Collection<Long> roomIds);
 }
\ No newline at end of file
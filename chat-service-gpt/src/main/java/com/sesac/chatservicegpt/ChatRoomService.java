@@ -1,11 +1,19 @@
 package com.sesac.chatservicegpt;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -15,21 +23,29 @@ public class ChatRoomService {
 
     private final ChatRoomRepository chatRoomRepository;
     private final RoomParticipantRepository participantRepository;
+    private final ChatMessageRepository chatMessageRepository;
     private final RedisTemplate<String, Object> redisTemplate;
 
     private static final String ROOM_PARTICIPANTS_KEY = "room:participants:";
+    // 채팅방별 마지막 활동 시각 (score = epoch millis)
+    private static final String ROOM_ACTIVITY_KEY = "room:activity";
 
-    public ChatRoom createRoom(String roomName, String createdBy, Long userId) {
+    @Transactional
+    public ChatRoom createRoom(String roomName, String createdBy, Long userId, LocalDateTime closesAt) {
         ChatRoom room = ChatRoom.builder()
                 .name(roomName)
                 .createdBy(createdBy)
                 .createdByUserId(userId)
                 .active(true)
+                .closesAt(closesAt)
                 .build();
 
-        return chatRoomRepository.save(room);
+        ChatRoom saved = chatRoomRepository.save(room);
+        recordActivity(saved.getId());
+        return saved;
     }
 
+    @Transactional(readOnly = true)
     public List<ChatRoom> getAllActiveRooms() {
         List<ChatRoom> rooms = chatRoomRepository.findActiveRoomsOrderByCreatedAtDesc();
 
@@ -40,7 +56,18 @@ public class ChatRoomService {
         }).collect(Collectors.toList());
     }
 
+    @Transactional
     public boolean addParticipant(Long roomId, Long userId, String nickname) {
+        // 종료된 채팅방 입장 불가
+        // 채팅방 행을 잠근 채 확인하므로, 진행 중인 종료 처리가 있으면 커밋을 기다린 뒤 최신 상태로 판단
+        // (종료가 먼저 커밋되면 입장 거부, 입장이 먼저 커밋되면 종료 처리 시 함께 시스템 퇴출됨)
+        boolean active = chatRoomRepository.findByIdForUpdate(roomId)
+                .map(ChatRoom::getActive)
+                .orElse(false);
+        if (!active) {
+            throw new RuntimeException("종료된 채팅방입니다.");
+        }
+
         // 재입장 가능 여부 확인
         if (!canRejoin(roomId, userId)) {
             throw new RuntimeException("재입장이 불가능한 사용자입니다.");
@@ -49,16 +76,18 @@ public class ChatRoomService {
         // Redis에 추가 (실시간 세션)
         String key = ROOM_PARTICIPANTS_KEY + roomId;
         redisTemplate.opsForHash().put(key, userId.toString(), nickname);
+        recordActivity(roomId);
 
-        // DB에 참여 기록
+        // DB에 참여 기록 (입장 시점까지의 메시지는 확인한 것으로 처리)
         var existingParticipant = participantRepository.findByRoomIdAndUserId(roomId, userId);
+        Long lastMessageId = chatMessageRepository.findLastMessageId(roomId.toString());
 
         if (existingParticipant.isPresent()) {
             // 재입장 시 상태 업데이트
             RoomParticipant participant = existingParticipant.get();
             participant.setStatus(ParticipantStatus.ACTIVE);
             participant.setLeftAt(null);
-            participantRepository.save(participant);
+            participant.setLastReadMessageId(lastMessageId);
             return false; // 재입장
         } else {
             // 최초 입장
@@ -67,11 +96,20 @@ public class ChatRoomService {
                     .userId(userId)
                     .nickname(nickname)
                     .status(ParticipantStatus.ACTIVE)
+                    .lastReadMessageId(lastMessageId)
                     .build());
             return true; // 최초 입장
         }
     }
 
+    // 채팅방 메시지를 모두 확인한 것으로 처리 (미확인 메시지 오프셋을 마지막 메시지로 이동)
+    @Transactional
+    public void markAsRead(Long roomId, Long userId) {
+        participantRepository.findByRoomIdAndUserId(roomId, userId)
+                .ifPresent(participant ->
+                        participant.setLastReadMessageId(chatMessageRepository.findLastMessageId(roomId.toString())));
+    }
+
     // 이미 입장해 있는지 확인 (Redis 기준)
     public boolean isAlreadyInRoom(Long roomId, Long userId) {
         String key = ROOM_PARTICIPANTS_KEY + roomId;
@@ -79,19 +117,21 @@ public class ChatRoomService {
     }
 
     // 일시 퇴장 처리 (Redis에서만 제거)
+    @Transactional
     public void temporaryLeave(Long roomId, Long userId) {
         String key = ROOM_PARTICIPANTS_KEY + roomId;
         redisTemplate.opsForHash().delete(key, userId.toString());
 
-        // DB 상태 업데이트 (선택적)
+        // DB 상태 업데이트 (퇴장 시점까지의 메시지는 확인한 것으로 처리)
         participantRepository.findByRoomIdAndUserId(roomId, userId)
                 .ifPresent(participant -> {
                     participant.setStatus(ParticipantStatus.TEMP_LEFT);
-                    participantRepository.save(participant);
+                    participant.setLastReadMessageId(chatMessageRepository.findLastMessageId(roomId.toString()));
                 });
     }
 
     // 영구 탈퇴 처리 (사용자 자발적)
+    @Transactional
     public void permanentExit(Long roomId, Long userId, String nickname) {
         // Redis에서 제거
         String key = ROOM_PARTICIPANTS_KEY + roomId;
@@ -103,11 +143,11 @@ public class ChatRoomService {
                     participant.setStatus(ParticipantStatus.SELF_EXITED);
                     participant.setLeftAt(LocalDateTime.now());
                     participant.setExitReason("사용자 자발적 탈퇴");
-                    participantRepository.save(participant);
                 });
     }
 
     // 강제 퇴출 (방장에 의해)
+    @Transactional
     public void kickParticipant(Long roomId, Long userId, Long kickedByUserId, String reason) {
         // Redis에서 제거
         String key = ROOM_PARTICIPANTS_KEY + roomId;
@@ -120,11 +160,11 @@ public class ChatRoomService {
                     participant.setLeftAt(LocalDateTime.now());
                     participant.setKickedBy(kickedByUserId);
                     participant.setExitReason(reason);
-                    participantRepository.save(participant);
                 });
     }
 
     // 시스템 자동 퇴출 (모집 마감 시 등)
+    @Transactional
     public void systemRemove(Long roomId, Long userId, String reason) {
         // Redis에서 제거
         String key = ROOM_PARTICIPANTS_KEY + roomId;
@@ -136,11 +176,95 @@ public class ChatRoomService {
                     participant.setStatus(ParticipantStatus.SYSTEM_REMOVED);
                     participant.setLeftAt(LocalDateTime.now());
                     participant.setExitReason(reason);
-                    participantRepository.save(participant);
                 });
     }
 
+    // 채팅방 일괄 종료 (모집 마감 / 장기 미사용)
+    // 참여자 상태는 bulk UPDATE 한 번, Redis 참여자 해시는 파이프라인 내 DEL 한 번으로 정리
+    // 실제로 종료된(이전에 활성 상태였던) 채팅방 ID 반환
+    @Transactional
+    public List<Long> closeRooms(List<Long> roomIds, String reason) {
+        List<Long> closing = chatRoomRepository.findActiveRoomIds(roomIds);
+
+        if (!closing.isEmpty()) {
+            chatRoomRepository.deactivateAll(closing);
+            participantRepository.updateStatusByRoomIds(
+                    closing,
+                    List.of(ParticipantStatus.ACTIVE, ParticipantStatus.TEMP_LEFT),
+                    ParticipantStatus.SYSTEM_REMOVED,
+                    LocalDateTime.now(),
+                    reason
+            );
+        }
+
+        // 이미 종료된 채팅방도 참여자 해시와 활동 기록은 제거
+        // (다른 경로로 먼저 종료되었거나 종료 직전 입장으로 다시 기록된 경우에도 정리되도록)
+        List<String> participantKeys = roomIds.stream()
+                .map(roomId -> ROOM_PARTICIPANTS_KEY + roomId)
+                .toList();
+        Object[] activityMembers = roomIds.stream()
+                .map(Object::toString)
+                .toArray();
+
+        // Redis 정리는 DB 커밋 이후에 수행 (커밋 실패 시 Redis 참여자/활동 기록 유지)
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                clearRoomState(participantKeys, activityMembers);
+            }
+        });
+
+        return closing;
+    }
+
+    // 참여자 해시 DEL + 활동 기록 ZREM을 한 파이프라인으로 전송
+    private void clearRoomState(List<String> participantKeys, Object[] activityMembers) {
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, Object> ops = (RedisOperations<String, Object>) operations;
+                if (!participantKeys.isEmpty()) {
+                    ops.delete(participantKeys);
+                }
+                ops.opsForZSet().remove(ROOM_ACTIVITY_KEY, activityMembers);
+                return null;
+            }
+        });
+    }
+
+    // 모집 마감 시각이 지난 활성 채팅방 ID
+    @Transactional(readOnly = true)
+    public List<Long> findExpiredRoomIds(int limit) {
+        return chatRoomRepository.findExpiredRoomIds(LocalDateTime.now(), PageRequest.of(0, limit));
+    }
+
+    // 마지막 활동 이후 idleTimeout이 지난 채팅방 ID (Redis 기준)
+    public List<Long> findIdleRoomIds(Duration idleTimeout, int limit) {
+        long cutoff = System.currentTimeMillis() - idleTimeout.toMillis();
+        Set<Object> members = redisTemplate.opsForZSet()
+                .rangeByScore(ROOM_ACTIVITY_KEY, Double.NEGATIVE_INFINITY, cutoff, 0, limit);
+
+        return Objects.requireNonNullElse(members, Set.<Object>of()).stream()
+                .map(member -> Long.parseLong(member.toString()))
+                .toList();
+    }
+
+    // 채팅방 마지막 활동 시각 갱신 (메시지 전송, 입장, 생성 시 - 활성 채팅방인 경우에만 호출)
+    public void recordActivity(Long roomId) {
+        redisTemplate.opsForZSet().add(ROOM_ACTIVITY_KEY, roomId.toString(), System.currentTimeMillis());
+    }
+
+    // 활성(종료되지 않은) 채팅방인지 확인 (ChatRoom 2차 캐시 조회)
+    @Transactional(readOnly = true)
+    public boolean isRoomActive(Long roomId) {
+        return chatRoomRepository.findById(roomId)
+                .map(ChatRoom::getActive)
+                .orElse(false);
+    }
+
     // 재입장 가능 여부 확인
+    @Transactional(readOnly = true)
     public boolean canRejoin(Long roomId, Long userId) {
         // 영구 탈퇴/퇴출된 사용자는 재입장 불가
         List<ParticipantStatus> blockedStatuses = List.of(
@@ -154,7 +278,8 @@ public class ChatRoomService {
         );
     }
 
-    // 방장 여부 확인
+    // 방장 여부 확인 (ChatRoom은 2차 캐시 대상이라 캐시 히트 시 쿼리 없음)
+    @Transactional(readOnly = true)
     public boolean isRoomCreator(Long roomId, Long userId) {
         return chatRoomRepository.findById(roomId)
                 .map(room -> room.getCreatedByUserId().equals(userId))
@@ -175,6 +300,7 @@ public class ChatRoomService {
         return redisTemplate.opsForHash().size(key).intValue();
     }
 
+    @Transactional(readOnly = true)
     public ChatRoom findById(Long roomId) {
         return chatRoomRepository.findById(roomId)
                 .orElseThrow(() -> new RuntimeException("Room not found: " + roomId));
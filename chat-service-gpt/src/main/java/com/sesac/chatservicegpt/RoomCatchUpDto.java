@@ -0,0 +1,18 @@
+package com.sesac.chatservicegpt;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// 채팅방별 미확인 메시지 요약 (재입장/접속 시 일괄 전달)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoomCatchUpDto {
+    private Long roomId;
+    private long missedCount;
+    private ChatMessage lastMessage;
+    private List<ChatMessage> messages; // 미확인 메시지 첫 페이지 (오래된 순)
+}
@@ -0,0 +1,110 @@
+package com.sesac.chatservicegpt;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// 채팅방 생명주기 스케줄러: 모집 마감 / 장기 미사용 채팅방 자동 종료
+// lazy-initialization(fast-start 프로파일)에서도 스케줄이 등록되도록 즉시 초기화
+// chat.lifecycle.enabled는 실행 시점에 확인 (AOT 모드에서는 조건부 빈 등록이 빌드 시점에 고정되므로)
+@Slf4j
+@Component
+@Lazy(false)
+@RequiredArgsConstructor
+public class RoomLifecycleScheduler {
+
+    private static final String DEADLINE_REASON = "모집 마감";
+    private static final String IDLE_REASON = "장기 미사용";
+
+    private final ChatRoomService chatRoomService;
+    private final SimpMessageSendingOperations messagingTemplate;
+
+    @Value("${chat.lifecycle.enabled:true}")
+    private boolean enabled;
+    @Value("${chat.lifecycle.rooms-per-tick}")
+    private int roomsPerTick;
+    @Value("${chat.lifecycle.batch-size}")
+    private int batchSize;
+    @Value("${chat.lifecycle.concurrency}")
+    private int concurrency;
+    @Value("${chat.lifecycle.idle-timeout-minutes}")
+    private long idleTimeoutMinutes;
+
+    private ExecutorService executor;
+
+    @PostConstruct
+    void init() {
+        executor = Executors.newFixedThreadPool(concurrency);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    @Scheduled(fixedDelayString = "${chat.lifecycle.tick-interval-ms}")
+    public void tick() {
+        if (!enabled) {
+            return;
+        }
+
+        List<Long> closed = new ArrayList<>();
+        closed.addAll(closeInBatches(chatRoomService.findExpiredRoomIds(roomsPerTick), DEADLINE_REASON));
+        closed.addAll(closeInBatches(
+                chatRoomService.findIdleRoomIds(Duration.ofMinutes(idleTimeoutMinutes), roomsPerTick),
+                IDLE_REASON));
+
+        if (closed.isEmpty()) {
+            return;
+        }
+        log.info("채팅방 {}개 자동 종료", closed.size());
+
+        // 채팅방 목록 갱신은 틱당 한 번만 브로드캐스트
+        messagingTemplate.convertAndSend("/topic/rooms", chatRoomService.getAllActiveRooms());
+    }
+
+    // batchSize 단위로 나눠 최대 concurrency개 배치를 병렬 처리
+    private List<Long> closeInBatches(List<Long> roomIds, String reason) {
+        List<CompletableFuture<List<Long>>> futures = new ArrayList<>();
+        for (int from = 0; from < roomIds.size(); from += batchSize) {
+            List<Long> batch = roomIds.subList(from, Math.min(from + batchSize, roomIds.size()));
+            futures.add(CompletableFuture.supplyAsync(() -> closeBatch(batch, reason), executor));
+        }
+
+        return futures.stream()
+                .map(CompletableFuture::join)
+                .flatMap(List::stream)
+                .toList();
+    }
+
+    private List<Long> closeBatch(List<Long> roomIds, String reason) {
+        try {
+            List<Long> closed = chatRoomService.closeRooms(roomIds, reason);
+
+            // 종료된 채팅방마다 시스템 메시지 한 번
+            String systemMessage = "채팅방이 종료되었습니다. (" + reason + ")";
+            closed.forEach(roomId -> messagingTemplate.convertAndSend(
+                    "/topic/rooms/" + roomId + "/system",
+                    Map.of("message", systemMessage, "type", "CLOSE", "reason", reason)
+            ));
+            return closed;
+        } catch (RuntimeException e) {
+            log.warn("채팅방 일괄 종료 실패: {}", roomIds, e);
+            return List.of();
+        }
+    }
+}
@@ -12,8 +12,10 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @Builder
 public class RoomParticipant {
+    // IDENTITY는 JDBC insert 배칭을 막으므로 pooled 시퀀스 사용 (50개 단위로 id 선할당)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "room_participant_seq")
+    @SequenceGenerator(name = "room_participant_seq", sequenceName = "room_participant_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -41,6 +43,9 @@ public class RoomParticipant {
     @Column
     private Long kickedBy; // 강제 퇴출 시 방장 ID
 
+    @Column
+    private Long lastReadMessageId; // 마지막으로 확인한 메시지 ID (미확인 메시지 기준 오프셋)
+
     @PrePersist
     protected void onCreate() {
         joinedAt = LocalDateTime.now();
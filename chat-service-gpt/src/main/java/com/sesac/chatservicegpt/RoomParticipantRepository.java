@@ -1,8 +1,13 @@
 package com.sesac.chatservicegpt;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -27,4 +32,16 @@ public interface RoomParticipantRepository extends JpaRepository<RoomParticipant
 
     // 특정 사용자가 참여 중인 모든 채팅방
     List<RoomParticipant> findByUserIdAndStatus(Long userId, ParticipantStatus status);
+
+    // 여러 채팅방의 참여자 상태 일괄 변경 (채팅방 종료 시 시스템 퇴출)
+    @Modifying
+    @Query("UPDATE RoomParticipant p SET p.status = :status, p.leftAt = :leftAt, p.exitReason = :reason " +
+            "WHERE p.roomId IN :roomIds AND p.status IN :currentStatuses")
+    int updateStatusByRoomIds(
+            @Param("roomIds") Collection<Long> roomIds,
+            @Param("currentStatuses") List<ParticipantStatus> currentStatuses,
+            @Param("status") ParticipantStatus status,
+            @Param("leftAt") LocalDateTime leftAt,
+            @Param("reason") String reason
+    );
 }
\ No newline at end of file
@@ -0,0 +1,38 @@
+package com.sesac.chatservicegpt;
+
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// 채팅방별 사용자의 WebSocket 세션 목록 (여러 탭에서 같은 채팅방에 입장한 경우)
+// 마지막 세션이 나갈 때만 일시 퇴장 처리하기 위해 사용
+// Simple Broker 단일 인스턴스 기준이라 메모리에 보관 (세션이 끊기면 함께 정리됨)
+@Component
+public class RoomSessionRegistry {
+
+    private final Map<String, Set<String>> sessions = new ConcurrentHashMap<>();
+
+    public void register(Long roomId, Long userId, String sessionId) {
+        sessions.compute(key(roomId, userId), (key, sessionIds) -> {
+            Set<String> updated = sessionIds != null ? sessionIds : new HashSet<>();
+            updated.add(sessionId);
+            return updated;
+        });
+    }
+
+    // 세션 제거 후 해당 사용자의 남은 세션이 없으면 true
+    public boolean unregister(Long roomId, Long userId, String sessionId) {
+        Set<String> remaining = sessions.computeIfPresent(key(roomId, userId), (key, sessionIds) -> {
+            sessionIds.remove(sessionId);
+            return sessionIds.isEmpty() ? null : sessionIds;
+        });
+        return remaining == null;
+    }
+
+    private String key(Long roomId, Long userId) {
+        return roomId + ":" + userId;
+    }
+}
@@ -0,0 +1,23 @@
+package com.sesac.chatservicegpt;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.jpa.AbstractEntityManagerFactoryBean;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.socket.WebSocketHandler;
+
+@Configuration
+public class StartupConfig {
+
+    // lazy-initialization 사용 시에도 즉시 초기화할 빈
+    // - WebSocket 핸드셰이크 경로: 첫 연결 수락이 늦어지지 않도록
+    // - EntityManagerFactory: deferred 부트스트랩으로 백그라운드에서 미리 초기화
+    @Bean
+    static LazyInitializationExcludeFilter webLazyInitializationExcludeFilter() {
+        return (beanName, beanDefinition, beanType) ->
+                HandlerMapping.class.isAssignableFrom(beanType)
+                        || WebSocketHandler.class.isAssignableFrom(beanType)
+                        || AbstractEntityManagerFactoryBean.class.isAssignableFrom(beanType);
+    }
+}
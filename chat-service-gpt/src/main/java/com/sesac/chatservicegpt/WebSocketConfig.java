@@ -20,8 +20,8 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
     @Override
     public void configureMessageBroker(MessageBrokerRegistry registry) {
-        // 구독 prefix
-        registry.enableSimpleBroker("/topic");
+        // 구독 prefix (/queue: 세션별 개인 메시지, 클라이언트는 /user/queue/... 구독)
+        registry.enableSimpleBroker("/topic", "/queue");
         // 메시지 발행 prefix
         registry.setApplicationDestinationPrefixes("/app");
     }
@@ -0,0 +1,149 @@
+package com.sesac.chatservicegpt;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+
+@ExtendWith(MockitoExtension.class)
+class CatchUpServiceTest {
+
+    private static final Long USER_ID = 1L;
+    private static final int PAGE_SIZE = 2;
+
+    @Mock
+    private ChatMessageRepository chatMessageRepository;
+
+    @InjectMocks
+    private CatchUpService catchUpService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(catchUpService, "pageSize", PAGE_SIZE);
+    }
+
+    @Test
+    void noMissedMessages() {
+        given(chatMessageRepository.findMissedMessages(USER_ID, PAGE_SIZE)).willReturn(List.of());
+
+        assertThat(catchUpService.getDigest(USER_ID)).isEmpty();
+    }
+
+    @Test
+    void roomWithFewerMessagesThanPage() {
+        given(chatMessageRepository.findMissedMessages(USER_ID, PAGE_SIZE)).willReturn(List.of(
+                new Row(10L, "1", 1L, 1L)
+        ));
+
+        List<RoomCatchUpDto> digest = catchUpService.getDigest(USER_ID);
+
+        assertThat(digest).hasSize(1);
+        RoomCatchUpDto room = digest.get(0);
+        assertThat(room.getRoomId()).isEqualTo(1L);
+        assertThat(room.getMissedCount()).isEqualTo(1);
+        assertThat(room.getMessages()).extracting(ChatMessage::getId).containsExactly(10L);
+        assertThat(room.getLastMessage().getId()).isEqualTo(10L);
+    }
+
+    @Test
+    void roomWithExactlyOnePage() {
+        given(chatMessageRepository.findMissedMessages(USER_ID, PAGE_SIZE)).willReturn(List.of(
+                new Row(10L, "1", 2L, 1L),
+                new Row(11L, "1", 2L, 2L)
+        ));
+
+        RoomCatchUpDto room = catchUpService.getDigest(USER_ID).get(0);
+
+        assertThat(room.getMessages()).extracting(ChatMessage::getId).containsExactly(10L, 11L);
+        assertThat(room.getLastMessage().getId()).isEqualTo(11L);
+    }
+
+    @Test
+    void roomWithMoreMessagesThanPage() {
+        // 미확인 5개 중 쿼리는 첫 페이지(1, 2번째)와 마지막(5번째)만 반환
+        given(chatMessageRepository.findMissedMessages(USER_ID, PAGE_SIZE)).willReturn(List.of(
+                new Row(10L, "1", 5L, 1L),
+                new Row(11L, "1", 5L, 2L),
+                new Row(14L, "1", 5L, 5L)
+        ));
+
+        RoomCatchUpDto room = catchUpService.getDigest(USER_ID).get(0);
+
+        assertThat(room.getMissedCount()).isEqualTo(5);
+        assertThat(room.getMessages()).extracting(ChatMessage::getId).containsExactly(10L, 11L);
+        assertThat(room.getLastMessage().getId()).isEqualTo(14L);
+        assertThat(room.getLastMessage().getMessage()).isEqualTo("message 14");
+    }
+
+    @Test
+    void multipleRooms() {
+        given(chatMessageRepository.findMissedMessages(USER_ID, PAGE_SIZE)).willReturn(List.of(
+                new Row(10L, "1", 3L, 1L),
+                new Row(12L, "1", 3L, 2L),
+                new Row(15L, "1", 3L, 3L),
+                new Row(11L, "2", 1L, 1L)
+        ));
+
+        List<RoomCatchUpDto> digest = catchUpService.getDigest(USER_ID);
+
+        assertThat(digest).extracting(RoomCatchUpDto::getRoomId).containsExactly(1L, 2L);
+
+        RoomCatchUpDto first = digest.get(0);
+        assertThat(first.getMissedCount()).isEqualTo(3);
+        assertThat(first.getMessages()).extracting(ChatMessage::getId).containsExactly(10L, 12L);
+        assertThat(first.getLastMessage().getId()).isEqualTo(15L);
+
+        RoomCatchUpDto second = digest.get(1);
+        assertThat(second.getMissedCount()).isEqualTo(1);
+        assertThat(second.getMessages()).extracting(ChatMessage::getId).containsExactly(11L);
+        assertThat(second.getLastMessage().getId()).isEqualTo(11L);
+    }
+
+    private record Row(Long id, String roomId, Long missedCount, Long rowNumber)
+            implements ChatMessageRepository.MissedMessage {
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public String getRoomId() {
+            return roomId;
+        }
+
+        @Override
+        public String getSender() {
+            return "sender";
+        }
+
+        @Override
+        public String getMessage() {
+            return "message " + id;
+        }
+
+        @Override
+        public LocalDateTime getTimestamp() {
+            return LocalDateTime.of(2025, 1, 1, 0, 0);
+        }
+
+        @Override
+        public Long getMissedCount() {
+            return missedCount;
+        }
+
+        @Override
+        public Long getRowNumber() {
+            return rowNumber;
+        }
+    }
+}
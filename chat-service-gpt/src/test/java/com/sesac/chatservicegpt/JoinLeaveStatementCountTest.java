@@ -0,0 +1,98 @@
+package com.sesac.chatservicegpt;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.RedisTemplate;
+
+// 입장/퇴장/재입장 1회당 JDBC 구문 수 측정 (docker-compose의 Postgres/Redis 필요)
+// 기준 커밋과 비교할 수 있도록 양쪽에 모두 있는 서비스 메서드만 호출 (README 참고)
+//   MEASURE_STATEMENTS=true ./gradlew test --tests JoinLeaveStatementCountTest -i
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@EnabledIfEnvironmentVariable(named = "MEASURE_STATEMENTS", matches = "true")
+class JoinLeaveStatementCountTest {
+
+    private static final int USERS = 20;
+    private static final long USER_ID_BASE = 900_000L;
+
+    @Autowired
+    private ChatRoomService chatRoomService;
+
+    @Autowired
+    private ChatRoomRepository chatRoomRepository;
+
+    @Autowired
+    private RoomParticipantRepository participantRepository;
+
+    @Autowired
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Long roomId;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        roomId = chatRoomRepository.save(ChatRoom.builder()
+                .name("statement-count")
+                .createdBy("measure")
+                .createdByUserId(USER_ID_BASE)
+                .build()).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (long i = 0; i < USERS; i++) {
+            participantRepository.findByRoomIdAndUserId(roomId, USER_ID_BASE + i)
+                    .ifPresent(participantRepository::delete);
+        }
+        chatRoomRepository.deleteById(roomId);
+        redisTemplate.delete("room:participants:" + roomId);
+        redisTemplate.opsForZSet().remove("room:activity", roomId.toString());
+    }
+
+    @Test
+    void printStatementsPerJoinAndLeave() {
+        // 첫 호출의 캐시/시퀀스 준비 비용이 평균에 섞이지 않도록 한 번 실행 후 제외
+        join(USER_ID_BASE);
+        chatRoomService.temporaryLeave(roomId, USER_ID_BASE);
+        join(USER_ID_BASE);
+
+        long firstJoin = 0;
+        long leave = 0;
+        long rejoin = 0;
+        for (long i = 1; i < USERS; i++) {
+            long userId = USER_ID_BASE + i;
+            firstJoin += measure(() -> join(userId));
+            leave += measure(() -> chatRoomService.temporaryLeave(roomId, userId));
+            rejoin += measure(() -> join(userId));
+        }
+
+        int samples = USERS - 1;
+        System.out.printf("statements per first join: %.2f%n", (double) firstJoin / samples);
+        System.out.printf("statements per leave:      %.2f%n", (double) leave / samples);
+        System.out.printf("statements per rejoin:     %.2f%n", (double) rejoin / samples);
+    }
+
+    // ChatController.joinRoom의 DB 경로 (재입장 가능 여부 확인 후 참여자 추가)
+    private void join(long userId) {
+        if (chatRoomService.canRejoin(roomId, userId)) {
+            chatRoomService.addParticipant(roomId, userId, "user" + (userId - USER_ID_BASE));
+        }
+    }
+
+    private long measure(Runnable action) {
+        long before = statistics.getPrepareStatementCount();
+        action.run();
+        return statistics.getPrepareStatementCount() - before;
+    }
+}
@@ -23,7 +23,7 @@ function App() {
   // 로그인 시 웹소켓 연결
   useEffect(() => {
     if (user && !isConnected) {
-      connect();
+      connect(user.id);
     } else if (!user && isConnected) {
       disconnect();
       setCurrentRoom(null);
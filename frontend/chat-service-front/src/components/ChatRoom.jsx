@@ -76,6 +76,17 @@ const ChatRoom = ({ user, room, stompClient, onLeaveRoom }) => {
             }]);
         });
 
+        // 요청 거부 오류 구독 (이 세션에만 전달됨)
+        const errorSubscription = stompClient.subscribe('/user/queue/errors', (message) => {
+            const error = JSON.parse(message.body);
+            setMessages(prev => [...prev, {
+                message: error.message,
+                type: 'ERROR',
+                isSystem: true,
+                timestamp: new Date()
+            }]);
+        });
+
         // 입장 알림 전송 (중복 방지)
         if (!hasJoinedRef.current) {
             stompClient.publish({
@@ -106,6 +117,7 @@ const ChatRoom = ({ user, room, stompClient, onLeaveRoom }) => {
             messageSubscription?.unsubscribe();
             participantSubscription?.unsubscribe();
             systemSubscription?.unsubscribe();
+            errorSubscription?.unsubscribe();
         };
     }, [stompClient, room.id, user]);
 
@@ -29,6 +29,12 @@ const RoomList = ({ user, stompClient, onJoinRoom }) => {
             }));
         });
 
+        // 요청 거부 오류 구독 (채팅방 생성 실패 등, 이 세션에만 전달됨)
+        const errorSubscription = stompClient.subscribe('/user/queue/errors', (message) => {
+            const error = JSON.parse(message.body);
+            alert(error.message);
+        });
+
         // 초기 채팅방 목록 요청
         stompClient.publish({
             destination: '/app/rooms.list',
@@ -40,6 +46,7 @@ const RoomList = ({ user, stompClient, onJoinRoom }) => {
         return () => {
             if (subscription) subscription.unsubscribe();
             if (notificationSubscription) notificationSubscription.unsubscribe();
+            if (errorSubscription) errorSubscription.unsubscribe();
         };
     }, [stompClient, user.id]);
 
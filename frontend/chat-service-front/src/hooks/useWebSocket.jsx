@@ -6,7 +6,7 @@ export const useWebSocket = () => {
     const [isConnected, setIsConnected] = useState(false);
     const stompClientRef = useRef(null);
 
-    const connect = useCallback(() => {
+    const connect = useCallback((userId) => {
         if (stompClientRef.current && stompClientRef.current.connected) {
             return; // 이미 연결됨
         }
@@ -16,6 +16,11 @@ export const useWebSocket = () => {
             // SockJS를 WebSocket 팩토리로 사용
             webSocketFactory: () => new SockJS('http://localhost:8080/ws-chat'),
 
+            // 접속 사용자 (서버는 세션 사용자 기준으로 입장/미확인 메시지 요약 처리)
+            connectHeaders: {
+                userId: String(userId)
+            },
+
             // 연결 성공 시 콜백
             onConnect: (frame) => {
                 console.log('Connected: ' + frame);
@@ -0,0 +1,12 @@
+-- 기존 DB의 id 시퀀스 동기화
+-- ChatRoom / RoomParticipant의 id 생성 방식이 IDENTITY에서 pooled 시퀀스(allocationSize 50)로 바뀌면서
+-- ddl-auto: update가 만든 시퀀스는 1부터 시작하므로, 기존 데이터가 있으면 insert 시 id가 중복된다.
+-- 애플리케이션을 새 버전으로 띄우기 전에 한 번 실행:
+--   docker exec -i postgres-chat psql -U chatuser -d chatdb < sync-sequences.sql
+
+CREATE SEQUENCE IF NOT EXISTS chat_room_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS room_participant_seq START WITH 1 INCREMENT BY 50;
+
+-- pooled 옵티마이저는 시퀀스 값 기준으로 최대 50개 아래까지 id를 할당하므로 현재 최대 id + 50 으로 맞춘다
+SELECT setval('chat_room_seq', COALESCE((SELECT MAX(id) FROM chat_room), 0) + 50);
+SELECT setval('room_participant_seq', COALESCE((SELECT MAX(id) FROM room_participant), 0) + 50);
@@ -0,0 +1,14 @@
+-- 기존 DB 스키마 업그레이드
+-- fast-start 프로필은 ddl-auto: validate 로 스키마를 만들지 않으므로, 새 컬럼/인덱스를 미리 추가해야 한다.
+-- (기본 프로필의 ddl-auto: update 로 이미 추가된 경우에도 IF NOT EXISTS 로 안전하게 재실행 가능)
+-- 애플리케이션을 새 버전으로 띄우기 전에 한 번 실행:
+--   docker exec -i postgres-chat psql -U chatuser -d chatdb < upgrade-schema.sql
+
+-- 채팅방 모집 마감 시각 (null이면 마감 없음)
+ALTER TABLE chat_room ADD COLUMN IF NOT EXISTS closes_at timestamp(6);
+
+-- 미확인 메시지 오프셋 (참여자가 마지막으로 확인한 메시지 id)
+ALTER TABLE room_participant ADD COLUMN IF NOT EXISTS last_read_message_id bigint;
+
+-- 채팅방별 미확인 메시지 조회 (room_id = ? AND id > ?)
+CREATE INDEX IF NOT EXISTS idx_chat_message_room_id_id ON chat_message (room_id, id);